@@ -0,0 +1,229 @@
+package com.pluralsight;
+
+import java.io.*;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Evaluates alert rules as transactions are appended to, edited in, or deleted from a ledger
+ * Keeps a running total per rule, account, and month so each transaction only touches the rules it affects
+ */
+public class AlertEngine {
+    private static final DateTimeFormatter TIMESTAMP_FMT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final ArrayList<AlertRule> rules = new ArrayList<>();
+    // Vendor rules indexed by lowercase vendor, all other rules apply to every transaction
+    private final Map<String, List<Integer>> vendorRules = new HashMap<>();
+    private final List<Integer> generalRules = new ArrayList<>();
+    // Running totals keyed by rule index, account, and (for monthly rules) month
+    private final Map<String, Double> totals = new ConcurrentHashMap<>();
+    private final String alertFile;
+
+    public AlertEngine(String alertFile) {
+        this.alertFile = alertFile;
+    }
+
+    /**
+     * Reads rules line-by-line, skipping blank lines and # comments
+     * Must be called before any ledger is loaded so running totals start from the first transaction
+     */
+    public void loadRules(String fileName) {
+        File file = new File(fileName);
+        if (!file.exists()) {
+            return;
+        }
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || line.trim().startsWith("#")) {
+                    continue;
+                }
+                try {
+                    addRule(AlertRule.parse(line));
+                } catch (IllegalArgumentException ex) {
+                    System.out.println(FinancialTracker.RED + "\nInvalid rule on line " + lineNumber + " of " +
+                            fileName + ": " + ex.getMessage() + FinancialTracker.RESET);
+                }
+            }
+        } catch (IOException ex) {
+            System.err.println(FinancialTracker.RED + "\nError reading rules file." + FinancialTracker.RESET);
+        }
+    }
+
+    public void addRule(AlertRule rule) {
+        int index = rules.size();
+        rules.add(rule);
+        if (rule.getType() == AlertRule.Type.VENDOR_MONTHLY) {
+            vendorRules.computeIfAbsent(rule.getVendor().toLowerCase(), key -> new ArrayList<>()).add(index);
+        } else {
+            generalRules.add(index);
+        }
+    }
+
+    public List<AlertRule> getRules() {
+        return rules;
+    }
+
+    /**
+     * Adds transaction to running totals without raising alerts (used when loading existing history)
+     */
+    public void seed(String account, Transaction transaction) {
+        apply(account, transaction, 1);
+    }
+
+    /**
+     * Adds newly appended transaction to running totals and raises alerts for any threshold it crosses
+     */
+    public void onAppend(String account, Transaction transaction) {
+        onChange(account, null, transaction);
+    }
+
+    /**
+     * Replaces an edited transaction in the running totals, alerting only on the net change
+     */
+    public void onUpdate(String account, Transaction previous, Transaction transaction) {
+        onChange(account, previous, transaction);
+    }
+
+    /**
+     * Removes a deleted transaction from the running totals
+     */
+    public void onRemove(String account, Transaction previous) {
+        onChange(account, previous, null);
+    }
+
+    /**
+     * Records totals before the change, applies it, then checks every affected total for a crossed threshold
+     * Either transaction may be null (append has no previous, delete has no replacement)
+     */
+    private void onChange(String account, Transaction previous, Transaction transaction) {
+        if (rules.isEmpty()) {
+            return;
+        }
+
+        // Affected totals mapped to their rule index and value before the change
+        LinkedHashMap<String, Integer> affected = new LinkedHashMap<>();
+        collectKeys(account, previous, affected);
+        collectKeys(account, transaction, affected);
+        HashMap<String, Double> before = new HashMap<>();
+        for (String key : affected.keySet()) {
+            before.put(key, totals.getOrDefault(key, 0.0));
+        }
+
+        if (previous != null) {
+            apply(account, previous, -1);
+        }
+        if (transaction != null) {
+            apply(account, transaction, 1);
+        }
+
+        for (Map.Entry<String, Integer> entry : affected.entrySet()) {
+            AlertRule rule = rules.get(entry.getValue());
+            double was = before.get(entry.getKey());
+            double now = totals.getOrDefault(entry.getKey(), 0.0);
+
+            if (rule.getType() == AlertRule.Type.BALANCE_BELOW) {
+                if (was >= rule.getThreshold() && now < rule.getThreshold()) {
+                    raise(account, rule, String.format("balance is now $%.2f", now));
+                }
+            } else if (was <= rule.getThreshold() && now > rule.getThreshold()) {
+                String month = entry.getKey().substring(entry.getKey().lastIndexOf('|') + 1);
+                raise(account, rule, String.format("%s spend is now $%.2f", month, now));
+            }
+        }
+    }
+
+    /**
+     * Adds (sign 1) or subtracts (sign -1) transaction from every total it counts towards
+     */
+    private void apply(String account, Transaction transaction, int sign) {
+        if (rules.isEmpty()) {
+            return;
+        }
+        for (int index : rulesFor(transaction)) {
+            String key = totalKey(index, account, transaction);
+            if (key != null) {
+                totals.merge(key, sign * contribution(rules.get(index), transaction), Double::sum);
+            }
+        }
+    }
+
+    private void collectKeys(String account, Transaction transaction, Map<String, Integer> affected) {
+        if (transaction == null) {
+            return;
+        }
+        for (int index : rulesFor(transaction)) {
+            String key = totalKey(index, account, transaction);
+            if (key != null) {
+                affected.putIfAbsent(key, index);
+            }
+        }
+    }
+
+    /**
+     * Returns only the rules indexed under the transaction's vendor plus the general rules
+     */
+    private List<Integer> rulesFor(Transaction transaction) {
+        List<Integer> matched = vendorRules.get(transaction.getVendor().toLowerCase());
+        if (matched == null) {
+            return generalRules;
+        }
+        ArrayList<Integer> indexes = new ArrayList<>(matched);
+        indexes.addAll(generalRules);
+        return indexes;
+    }
+
+    /**
+     * Builds the running total key for a rule, or returns null if the transaction doesn't count towards it
+     * Monthly rules only count payments and keep a separate total per month
+     */
+    private String totalKey(int index, String account, Transaction transaction) {
+        AlertRule rule = rules.get(index);
+        if (!rule.appliesTo(account)) {
+            return null;
+        }
+
+        String key = index + "|" + account.toLowerCase();
+        if (rule.getType() == AlertRule.Type.BALANCE_BELOW) {
+            return key;
+        }
+        if (transaction.getAmount() >= 0) {
+            return null;
+        }
+        return key + "|" + YearMonth.from(transaction.getDate());
+    }
+
+    /**
+     * Balance rules add up amounts, monthly rules add up payments as a positive spend
+     */
+    private static double contribution(AlertRule rule, Transaction transaction) {
+        return rule.getType() == AlertRule.Type.BALANCE_BELOW ? transaction.getAmount() : -transaction.getAmount();
+    }
+
+    /**
+     * Prints alert to the console and appends it to the alert file
+     */
+    private synchronized void raise(String account, AlertRule rule, String detail) {
+        String message = "ALERT [" + account + "] " + rule.describe() + " (" + detail + ")";
+        System.out.println(FinancialTracker.RED + FinancialTracker.HIGH_INTENSITY + "\n" + message + FinancialTracker.RESET);
+
+        if (alertFile == null) {
+            return;
+        }
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(alertFile, true))) {
+            writer.write(LocalDateTime.now().format(TIMESTAMP_FMT) + "|" + message + "\n");
+        } catch (IOException ex) {
+            System.err.println(FinancialTracker.RED + "\nError writing to alert file." + FinancialTracker.RESET);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.pluralsight;
+
+/**
+ * A single budget or threshold rule read from the rules file
+ * Line format: type|account|threshold|vendor (use * as account to apply the rule to every account)
+ */
+public class AlertRule {
+
+    public enum Type {
+        // Monthly payments at one vendor go above the threshold
+        VENDOR_MONTHLY,
+        // Monthly payments across all vendors go above the threshold
+        MONTHLY_SPEND,
+        // Account balance drops below the threshold
+        BALANCE_BELOW
+    }
+
+    public static final String ANY_ACCOUNT = "*";
+
+    private final Type type;
+    private final String account;
+    private final double threshold;
+    private final String vendor;
+
+    public AlertRule(Type type, String account, double threshold, String vendor) {
+        this.type = type;
+        this.account = account;
+        this.threshold = threshold;
+        this.vendor = vendor;
+    }
+
+    /**
+     * Parses a rule line, throws IllegalArgumentException if the line is invalid
+     */
+    public static AlertRule parse(String line) {
+        String[] parts = line.split("\\|");
+        if (parts.length < 3) {
+            throw new IllegalArgumentException("expected type|account|threshold|vendor");
+        }
+
+        Type type = Type.valueOf(parts[0].trim().toUpperCase().replace('-', '_'));
+        String account = parts[1].trim();
+        double threshold = Double.parseDouble(parts[2].trim());
+        String vendor = parts.length > 3 ? parts[3].trim() : "";
+
+        if (account.isEmpty()) {
+            throw new IllegalArgumentException("account cannot be empty");
+        }
+        if (type == Type.VENDOR_MONTHLY && vendor.isEmpty()) {
+            throw new IllegalArgumentException("vendor rules need a vendor");
+        }
+        return new AlertRule(type, account, threshold, vendor);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getAccount() {
+        return account;
+    }
+
+    public double getThreshold() {
+        return threshold;
+    }
+
+    public String getVendor() {
+        return vendor;
+    }
+
+    /**
+     * Checks if rule applies to the given account
+     */
+    public boolean appliesTo(String account) {
+        return this.account.equals(ANY_ACCOUNT) || this.account.equalsIgnoreCase(account);
+    }
+
+    /**
+     * Describes rule in plain words for alert messages
+     */
+    public String describe() {
+        return switch (type) {
+            case VENDOR_MONTHLY -> String.format("monthly spend at %s exceeds $%.2f", vendor, threshold);
+            case MONTHLY_SPEND -> String.format("monthly spend exceeds $%.2f", threshold);
+            case BALANCE_BELOW -> String.format("balance drops below $%.2f", threshold);
+        };
+    }
+}
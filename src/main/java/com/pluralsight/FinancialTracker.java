@@ -6,12 +6,49 @@ import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Scanner;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 
 public class FinancialTracker {
-    private static final ArrayList<Transaction> transactions = new ArrayList<>();
     private static final String FILE_NAME = "transactions.csv";
+    private static final String DEFAULT_ACCOUNT = "main";
+    private static final String ACCOUNTS_DIR = "accounts";
+    private static final String ACCOUNT_NAME_PATTERN = "[A-Za-z0-9_-]+";
+    private static final String RULES_FILE = "rules.txt";
+    private static final String ALERTS_FILE = "alerts.log";
+    private static final int MAX_VENDOR_SUGGESTIONS = 5;
+    private static final int COMPACTION_INTERVAL_SECONDS = 30;
+    private static final int REPLICA_POLL_MILLIS = 200;
+
+    private static final Map<String, Ledger> ledgers = new ConcurrentHashMap<>();
+    // Daemon threads so the application still exits if main ends with an uncaught exception
+    private static final ExecutorService pool = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(), runnable -> {
+                Thread thread = new Thread(runnable, "ledger-pool");
+                thread.setDaemon(true);
+                return thread;
+            });
+    // Runs compaction on a primary and log polling on a replica
+    private static final ScheduledExecutorService background = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ledger-background");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final AlertEngine alerts = new AlertEngine(ALERTS_FILE);
+    private static Ledger currentLedger;
+    private static LogShipper shipper;
+    private static LogReplica replica;
 
     private static final String DATE_PATTERN = "yyyy-MM-dd";
     private static final String TIME_PATTERN = "HH:mm:ss";
@@ -31,7 +68,43 @@ public class FinancialTracker {
     public static final String HIGH_INTENSITY = "\u001B[1m";
 
     public static void main(String[] args) {
-        loadTransactions(FILE_NAME);
+        // --ship-to <dir> runs as a primary that ships every write to dir
+        // --replica <dir> runs as a read-only replica that follows a primary's dir
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 == args.length) {
+                System.out.println(RED + "\nMissing directory for option: " + args[i] + RESET);
+                return;
+            }
+            switch (args[i]) {
+                case "--ship-to" -> shipper = new LogShipper(args[i + 1]);
+                case "--replica" -> replica = new LogReplica(args[i + 1], ledgers);
+                default -> {
+                    System.out.println(RED + "\nUnknown option: " + args[i] + RESET);
+                    return;
+                }
+            }
+        }
+
+        if (replica != null) {
+            replica.poll();
+            if (!ledgers.containsKey(DEFAULT_ACCOUNT)) {
+                System.out.println(RED + "\nNo snapshots found in " + replica.getDirectory() +
+                        ", start the primary with --ship-to first." + RESET);
+                return;
+            }
+            background.scheduleWithFixedDelay(replica::poll,
+                    REPLICA_POLL_MILLIS, REPLICA_POLL_MILLIS, TimeUnit.MILLISECONDS);
+        } else {
+            alerts.loadRules(RULES_FILE);
+            loadLedgers();
+            // Gives replicas a starting point that matches what was just loaded
+            for (Ledger ledger : ledgers.values()) {
+                ledger.publishSnapshot();
+            }
+            background.scheduleWithFixedDelay(FinancialTracker::compactLedgers,
+                    COMPACTION_INTERVAL_SECONDS, COMPACTION_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        }
+        currentLedger = ledgers.get(DEFAULT_ACCOUNT);
 
         Scanner scanner = new Scanner(System.in);
         boolean isRunning = true;
@@ -41,9 +114,17 @@ public class FinancialTracker {
                     ┏━╸╻┏┓╻┏━┓┏┓╻┏━╸╻┏━┓╻  ╺┳╸┏━┓┏━┓┏━╸╻┏ ┏━╸┏━┓
                     ┣╸ ┃┃┗┫┣━┫┃┗┫┃  ┃┣━┫┃   ┃ ┣┳┛┣━┫┃  ┣┻┓┣╸ ┣┳┛
                     ╹  ╹╹ ╹╹ ╹╹ ╹┗━╸╹╹ ╹┗━╸ ╹ ╹┗╸╹ ╹┗━╸╹ ╹┗━╸╹┗╸®""" + RESET);
-            System.out.println("D) Add Deposit");
-            System.out.println("P) Make Payment (Debit)");
+            System.out.println(WHITE + "Account: " + currentLedger.getAccount() +
+                    (replica != null ? " (read-only replica)" : "") + RESET);
+            if (replica == null) {
+                System.out.println("D) Add Deposit");
+                System.out.println("P) Make Payment (Debit)");
+            }
             System.out.println("L) Ledger");
+            System.out.println("A) Accounts");
+            if (replica != null) {
+                System.out.println("S) Replication Status");
+            }
             System.out.println("X) Exit");
             System.out.print(WHITE + "Choose an option: " + RESET);
 
@@ -53,54 +134,189 @@ public class FinancialTracker {
                 case "D" -> addDeposit(scanner);
                 case "P" -> addPayment(scanner);
                 case "L" -> ledgerMenu(scanner);
+                case "A" -> accountsMenu(scanner);
+                case "S" -> displayReplicationStatus();
                 case "X" -> isRunning = false;
                 default -> System.out.println(RED + "\nInvalid option." + RESET);
             }
         }
         scanner.close();
+        background.shutdown();
+        pool.shutdown();
     }
 
     /**
-     * Reads file line-by-line, parsing and storing each field into a new transaction
+     * Finds every account file and loads each ledger in parallel on the thread pool
+     * The main account keeps using transactions.csv, other accounts live in the accounts folder
      */
-    public static void loadTransactions(String fileName) {
-        try {
-            // Creates new file object if file isn't found
-            File file = new File(fileName);
-            if (!file.exists()) {
-                file.createNewFile();
-            }
-
-            BufferedReader reader = new BufferedReader(new FileReader(fileName));
-            // Reads each line and splits line based on pipe location
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split("\\|");
-
-                // Validates line content
-                if (parts.length != 5) {
-                    System.out.println(RED + "\nError extracting file content, please check " +
-                            fileName + " for corrupted data." + RESET);
-                    continue;
+    public static void loadLedgers() {
+        ArrayList<Ledger> found = new ArrayList<>();
+        found.add(new Ledger(DEFAULT_ACCOUNT, FILE_NAME, alerts, shipper));
+
+        File[] files = new File(ACCOUNTS_DIR).listFiles((dir, name) -> name.endsWith(".csv"));
+        if (files != null) {
+            for (File file : files) {
+                String account = file.getName().substring(0, file.getName().length() - 4);
+                if (account.matches(ACCOUNT_NAME_PATTERN) && !account.equalsIgnoreCase(DEFAULT_ACCOUNT)) {
+                    found.add(new Ledger(account, file.getPath(), alerts, shipper));
                 }
+            }
+        }
 
-                // Parses necessary fields
-                LocalDate date = LocalDate.parse(parts[0]);
-                LocalTime time = LocalTime.parse(parts[1]);
-                String description = parts[2];
-                String vendor = parts[3];
-                double amount = Double.parseDouble(parts[4]);
+        ArrayList<Future<?>> loads = new ArrayList<>();
+        for (Ledger ledger : found) {
+            loads.add(pool.submit(() -> {
+                ledger.load();
+                return null;
+            }));
+        }
 
-                /*if (date == null || time == null || amount == null) {
-                    continue;
-                }*/
+        for (int i = 0; i < found.size(); i++) {
+            try {
+                loads.get(i).get();
+            } catch (InterruptedException | ExecutionException ex) {
+                System.err.println(RED + "\nError reading file " + found.get(i).getFileName() + "." + RESET);
+            }
+            ledgers.put(found.get(i).getAccount().toLowerCase(), found.get(i));
+        }
+    }
 
-                // Stores transaction in arraylist
-                transactions.add(new Transaction(date, time, description, vendor, amount));
+    /**
+     * Displays how far each account on this replica has caught up with the primary
+     */
+    private static void displayReplicationStatus() {
+        if (replica == null) {
+            System.out.println(RED + "\nInvalid option." + RESET);
+            return;
+        }
+
+        System.out.printf(GREEN + "%n%55s%n%n" + RESET, "--Replication Status--");
+        System.out.println("Following: " + replica.getDirectory());
+        System.out.printf("%-20s | %12s | %8s | %10s | %12s | %9s%n",
+                "Account", "Applied Seq", "Behind", "Delay (ms)", "Polled (ms)", "Snapshots");
+        System.out.println("-".repeat(88));
+
+        long now = System.currentTimeMillis();
+        for (LogReplica.Progress progress : replica.getProgress().values()) {
+            System.out.printf("%-20s | %12d | %8d | %10d | %12d | %9d%n",
+                    progress.getAccount(), progress.getAppliedSeq(), progress.getBehind(),
+                    progress.getDelayMillis(), now - progress.getLastPollMillis(), progress.getSnapshotsLoaded());
+            if (progress.getError() != null) {
+                System.out.println(RED + "  Error: " + progress.getError() + RESET);
             }
-            reader.close();
-        } catch (Exception ex) {
-            System.err.println(RED + "\nError reading file." + RESET);
+        }
+        System.out.println();
+    }
+
+    /**
+     * Prints a message and returns true if this process is a read-only replica
+     */
+    private static boolean isReadOnly() {
+        if (replica == null) {
+            return false;
+        }
+        System.out.println(RED + "\nThis is a read-only replica, please make changes on the primary." + RESET);
+        return true;
+    }
+
+    /**
+     * Runs in the background to rewrite ledger files that have built up edited or deleted records
+     */
+    private static void compactLedgers() {
+        for (Ledger ledger : ledgers.values()) {
+            try {
+                if (ledger.needsCompaction()) {
+                    ledger.compact();
+                }
+            } catch (IOException ex) {
+                System.err.println(RED + "\nError compacting " + ledger.getFileName() + "." + RESET);
+            }
+        }
+    }
+
+    /**
+     * Displays account options to prompt user
+     */
+    private static void accountsMenu(Scanner scanner) {
+        boolean isRunning = true;
+        while (isRunning) {
+            System.out.println(PURPLE + "\nAccounts" + RESET);
+            System.out.println("L) List Accounts");
+            System.out.println("S) Switch Account");
+            if (replica == null) {
+                System.out.println("N) New Account");
+            }
+            System.out.println("H) Home");
+            System.out.print(WHITE + "Choose an option: " + RESET);
+
+            String input = scanner.nextLine().trim();
+
+            switch (input.toUpperCase()) {
+                case "L" -> listAccounts();
+                case "S" -> switchAccount(scanner);
+                case "N" -> createAccount(scanner);
+                case "H" -> isRunning = false;
+                default -> System.out.println(RED + "\nInvalid option." + RESET);
+            }
+        }
+    }
+
+    /**
+     * Displays all loaded accounts in alphabetical order
+     */
+    private static void listAccounts() {
+        System.out.println();
+        for (Ledger ledger : new TreeMap<>(ledgers).values()) {
+            String marker = ledger == currentLedger ? " *" : "";
+            System.out.printf("%-20s %6d transactions%s%n", ledger.getAccount(), ledger.size(), marker);
+        }
+    }
+
+    /**
+     * Prompts user for an existing account and makes it the current account
+     */
+    private static void switchAccount(Scanner scanner) {
+        System.out.print("\nEnter account name: ");
+        String account = scanner.nextLine().trim();
+
+        Ledger ledger = ledgers.get(account.toLowerCase());
+        if (ledger == null) {
+            System.out.println(RED + "\nNo account found with name: " + account + RESET);
+            return;
+        }
+        currentLedger = ledger;
+        System.out.println(BLUE + "\nSwitched to account " + ledger.getAccount() + "." + RESET);
+    }
+
+    /**
+     * Prompts user for a new account name, creates its file, and makes it the current account
+     */
+    private static void createAccount(Scanner scanner) {
+        if (isReadOnly()) {
+            return;
+        }
+        System.out.print("\nEnter new account name (letters, numbers, - or _): ");
+        String account = scanner.nextLine().trim();
+
+        if (!account.matches(ACCOUNT_NAME_PATTERN)) {
+            System.out.println(RED + "\nInvalid account name." + RESET);
+            return;
+        }
+        if (ledgers.containsKey(account.toLowerCase())) {
+            System.out.println(RED + "\nAccount already exists: " + account + RESET);
+            return;
+        }
+
+        try {
+            new File(ACCOUNTS_DIR).mkdirs();
+            Ledger ledger = new Ledger(account, ACCOUNTS_DIR + File.separator + account + ".csv", alerts, shipper);
+            ledger.load();
+            ledger.publishSnapshot();
+            ledgers.put(account.toLowerCase(), ledger);
+            currentLedger = ledger;
+            System.out.println(BLUE + "\nCreated and switched to account " + account + "." + RESET);
+        } catch (IOException ex) {
+            System.out.println(RED + "\nError creating account file." + RESET);
         }
     }
 
@@ -129,6 +345,9 @@ public class FinancialTracker {
             System.out.println("D) Deposits");
             System.out.println("P) Payments");
             System.out.println("R) Reports");
+            if (replica == null) {
+                System.out.println("M) Modify Transactions");
+            }
             System.out.println("H) Home");
             System.out.print(WHITE + "Choose an option: " + RESET);
 
@@ -139,25 +358,186 @@ public class FinancialTracker {
                 case "D" -> displayDeposits();
                 case "P" -> displayPayments();
                 case "R" -> reportsMenu(scanner);
+                case "M" -> modifyTransactions(scanner);
                 case "H" -> isRunning = false;
                 default -> System.out.println(RED + "\nInvalid option." + RESET);
             }
         }
     }
 
+    /**
+     * Displays current account's transactions with their IDs and prompts user to edit or delete one
+     */
+    private static void modifyTransactions(Scanner scanner) {
+        if (isReadOnly()) {
+            return;
+        }
+        Map<Integer, Transaction> entries = currentLedger.entries();
+        if (entries.isEmpty()) {
+            System.out.println(RED + "\nNo transactions available." + RESET);
+            return;
+        }
+
+        ArrayList<Map.Entry<Integer, Transaction>> rows = new ArrayList<>(entries.entrySet());
+        rows.sort(Map.Entry.comparingByValue(Ledger.NEWEST_FIRST));
+
+        System.out.printf("%n%68s%n%n", PURPLE + "--Modify Transactions--" + RESET);
+        System.out.printf("%5s | %-10s | %-8s | %-30s | %-20s | %10s%n",
+                "ID", "Date", "Time", "Description", "Vendor", "Amount");
+        System.out.println("-".repeat(98));
+        for (Map.Entry<Integer, Transaction> row : rows) {
+            System.out.printf("%5d | ", row.getKey());
+            printTransaction(row.getValue());
+        }
+
+        System.out.print("\nEnter ID of transaction to modify or leave blank to go back: ");
+        String input = scanner.nextLine().trim();
+        if (input.isEmpty()) {
+            return;
+        }
+
+        int id;
+        try {
+            id = Integer.parseInt(input);
+        } catch (NumberFormatException ex) {
+            System.out.println(RED + "\nInvalid ID." + RESET);
+            return;
+        }
+        Transaction transaction = entries.get(id);
+        if (transaction == null) {
+            System.out.println(RED + "\nNo transaction found with ID: " + id + RESET);
+            return;
+        }
+
+        System.out.println("E) Edit");
+        System.out.println("D) Delete");
+        System.out.println("C) Cancel");
+        System.out.print(WHITE + "Choose an option: " + RESET);
+
+        try {
+            boolean isSaved;
+            switch (scanner.nextLine().trim().toUpperCase()) {
+                case "E" -> isSaved = currentLedger.update(id, transaction, editTransaction(scanner, transaction));
+                case "D" -> {
+                    System.out.print("\nAre you sure you want to delete this transaction? (Y/N): ");
+                    if (!scanner.nextLine().trim().equalsIgnoreCase("y")) {
+                        return;
+                    }
+                    isSaved = currentLedger.delete(id, transaction);
+                }
+                case "C" -> {
+                    return;
+                }
+                default -> {
+                    System.out.println(RED + "\nInvalid option." + RESET);
+                    return;
+                }
+            }
+
+            // Ledger refuses the change if the transaction was modified or renumbered by compaction meanwhile
+            if (isSaved) {
+                System.out.println(BLUE + "\nYou have successfully modified the transaction." + RESET);
+            } else {
+                System.out.println(RED + "\nTransaction has changed since it was displayed, please try again." + RESET);
+            }
+        } catch (IOException ex) {
+            System.out.println(RED + "\nError writing to file." + RESET);
+        }
+    }
+
+    /**
+     * Prompts user for new transaction details, keeping current values for fields left blank
+     * Amount is entered as a positive number and keeps the current transaction's sign
+     */
+    private static Transaction editTransaction(Scanner scanner, Transaction transaction) {
+        LocalDate date = transaction.getDate();
+        LocalTime time = transaction.getTime();
+        while (true) {
+            System.out.print("\nEnter new date & time (yyyy-MM-dd HH:mm:ss) or leave blank to keep " +
+                    date.format(DATE_FMT) + " " + time.format(TIME_FMT) + ": ");
+            String dateTime = scanner.nextLine().trim();
+            if (dateTime.isEmpty()) {
+                break;
+            }
+            try {
+                String[] dateTimeParts = dateTime.split(" ");
+                LocalDate newDate = LocalDate.parse(dateTimeParts[0]);
+                LocalTime newTime = LocalTime.parse(dateTimeParts[1]);
+
+                if (newDate.isBefore(LocalDate.now().minusYears(20)) || newDate.isAfter(LocalDate.now().plusYears(100))) {
+                    System.out.println(RED + "\nEntered date is unrealistic, please enter a more appropriate date." + RESET);
+                    continue;
+                }
+                date = newDate;
+                time = newTime;
+                break;
+            } catch (Exception ex) {
+                System.out.println(RED + "\nInvalid date/time format. Please use yyyy-MM-dd HH:mm:ss." + RESET);
+            }
+        }
+
+        String description;
+        while (true) {
+            System.out.print("\nEnter new description or leave blank to keep " + transaction.getDescription() + ": ");
+            description = scanner.nextLine().trim();
+            if (description.isEmpty()) {
+                description = transaction.getDescription();
+            } else if (description.contains("|")) {
+                System.out.println(RED + "\nDescription cannot contain '|'." + RESET);
+                continue;
+            }
+            break;
+        }
+
+        String vendor;
+        while (true) {
+            System.out.print("\nEnter new vendor or leave blank to keep " + transaction.getVendor() + ": ");
+            vendor = scanner.nextLine().trim();
+            if (vendor.isEmpty()) {
+                vendor = transaction.getVendor();
+            } else if (vendor.contains("|")) {
+                System.out.println(RED + "\nVendor cannot contain '|'." + RESET);
+                continue;
+            }
+            break;
+        }
+
+        double amount = transaction.getAmount();
+        while (true) {
+            System.out.printf("%nEnter new amount or leave blank to keep %.2f: ", Math.abs(amount));
+            String amountInput = scanner.nextLine().trim();
+            if (amountInput.isEmpty()) {
+                break;
+            }
+            try {
+                double newAmount = Double.parseDouble(amountInput);
+                if (newAmount <= 0 || amountInput.length() > 25) {
+                    System.out.println(RED + "\nEntered amount must be greater than $0." + RESET);
+                    continue;
+                }
+                amount = transaction.getAmount() < 0 ? -newAmount : newAmount;
+                break;
+            } catch (NumberFormatException ex) {
+                System.out.println(RED + "\nInvalid input, please enter a valid amount." + RESET);
+            }
+        }
+
+        return new Transaction(date, time, description, vendor, amount);
+    }
+
     /**
      * Displays all transactions stored in the arraylist
      */
     private static void displayLedger() {
+        List<Transaction> transactions = currentLedger.snapshot();
         // Prints message if no transactions are currently stored
         if (transactions.isEmpty()) {
             System.out.println(RED + "\nNo transactions available." + RESET);
             return;
         }
 
-        // Calls method to sort transactions (descending)
-        // and display ledger in table format
-        sortTransactions();
+        // Calls method to display ledger in table format
+        // (snapshot is already sorted in descending order)
         displayLedgerTable(PURPLE + "--All Transactions--" + RESET);
 
         // Iterates through each transaction and calls
@@ -172,12 +552,12 @@ public class FinancialTracker {
      * Displays only deposits or transactions with amounts greater than 0
      */
     private static void displayDeposits() {
+        List<Transaction> transactions = currentLedger.snapshot();
         if (transactions.isEmpty()) {
             System.out.println(RED + "\nNo transactions available." + RESET);
             return;
         }
 
-        sortTransactions();
         displayLedgerTable(PURPLE + "--Deposits--" + RESET);
 
         // Checks if transaction is positive
@@ -193,12 +573,12 @@ public class FinancialTracker {
      * Displays only payments or transactions with amounts less than 0
      */
     private static void displayPayments() {
+        List<Transaction> transactions = currentLedger.snapshot();
         if (transactions.isEmpty()) {
             System.out.println(RED + "\nNo transactions available." + RESET);
             return;
         }
 
-        sortTransactions();
         displayLedgerTable(PURPLE + "--Payments--" + RESET);
 
         for (Transaction transaction : transactions) {
@@ -224,6 +604,7 @@ public class FinancialTracker {
             System.out.println("4) Previous Year");
             System.out.println("5) Search by Vendor");
             System.out.println("6) Custom Search");
+            System.out.println("7) All Accounts");
             System.out.println("0) Back");
             System.out.print(WHITE + "Choose an option: " + RESET);
 
@@ -250,20 +631,9 @@ public class FinancialTracker {
                     LocalDate end = LocalDate.now().withDayOfYear(1).minusDays(1);
                     filterTransactionsByDate(start, end, "previous-year");
                 }
-                case "5" -> {
-                    String vendor;
-                    while (true) {
-                        System.out.print("\nEnter vendor name to filter transactions by vendor: ");
-                        vendor = scanner.nextLine();
-                        if (vendor.isBlank()) {
-                            System.out.println(RED + "\nVendor name cannot be empty." + RESET);
-                            continue;
-                        }
-                        break;
-                    }
-                    filterTransactionsByVendor(vendor.trim());
-                }
+                case "5" -> filterTransactionsByVendor(chooseVendor(scanner, promptVendor(scanner), List.of(currentLedger)));
                 case "6" -> customSearch(scanner);
+                case "7" -> crossAccountMenu(scanner);
                 case "0" -> isRunning = false;
                 default -> System.out.println(RED + "\nInvalid option" + RESET);
             }
@@ -275,12 +645,12 @@ public class FinancialTracker {
      * Displays only transactions that meet the condition
      */
     private static void filterTransactionsByDate(LocalDate start, LocalDate end, String displayType) {
+        List<Transaction> transactions = currentLedger.snapshot();
         if (transactions.isEmpty()) {
             System.out.println(RED + "\nReport is currently empty." + RESET);
             return;
         }
 
-        sortTransactions();
 
         // Displays different headings based on parameter
         switch (displayType.toLowerCase()) {
@@ -315,12 +685,12 @@ public class FinancialTracker {
      * Displays only transactions that meet the condition
      */
     private static void filterTransactionsByVendor(String vendor) {
+        List<Transaction> transactions = currentLedger.snapshot();
         if (transactions.isEmpty()) {
             System.out.println(RED + "\nReport is currently empty." + RESET);
             return;
         }
 
-        sortTransactions();
         displayLedgerTable(GREEN + "--Transactions by Vendor--" + RESET);
 
         // Checks if vendor in each transaction matches vendor in method parameter
@@ -338,53 +708,150 @@ public class FinancialTracker {
     }
 
     /**
-     * Prompts user for desired filter or choice to skip that filter
-     * Assumes all filters are chosen and eliminates each filter if field is left empty or doesn't match transaction values
+     * Displays cross-account report options to prompt user
+     * Each report is run on every account in parallel and the results are merged
      */
-    private static void customSearch(Scanner scanner) {
-        if (transactions.isEmpty()) {
-            System.out.println(RED + "\nReport is currently empty." + RESET);
-            return;
+    private static void crossAccountMenu(Scanner scanner) {
+        boolean isRunning = true;
+        while (isRunning) {
+            System.out.println(GREEN + "\nAll Accounts Reports" + RESET);
+            System.out.println("1) Account Totals");
+            System.out.println("2) Search by Vendor");
+            System.out.println("3) Date Range");
+            System.out.println("0) Back");
+            System.out.print(WHITE + "Choose an option: " + RESET);
+
+            String input = scanner.nextLine().trim();
+
+            switch (input) {
+                case "1" -> displayAccountTotals();
+                case "2" -> {
+                    String vendor = chooseVendor(scanner, promptVendor(scanner), new ArrayList<>(ledgers.values()));
+                    displayMergedReport("--All Accounts by Vendor--",
+                            transaction -> transaction.getVendor().equalsIgnoreCase(vendor));
+                }
+                case "3" -> {
+                    LocalDate start = promptDate(scanner, "start", false);
+                    LocalDate end = promptDate(scanner, "end", false);
+                    displayMergedReport("--All Accounts by Date Range--",
+                            transaction -> !transaction.getDate().isBefore(start) && !transaction.getDate().isAfter(end));
+                }
+                case "0" -> isRunning = false;
+                default -> System.out.println(RED + "\nInvalid option" + RESET);
+            }
         }
+    }
 
-        // Prompts user for start date, parses string, and validates input (range and format)
-        LocalDate start = null, end = null;
-        while (true) {
-            System.out.print("\nEnter start date (yyyy-MM-dd) or leave blank: ");
-            String startInput = scanner.nextLine().trim();
-            if (startInput.isEmpty()) {
-                break;
+    /**
+     * Sums deposits, payments, and balance of every account in parallel and displays them with a grand total
+     */
+    private static void displayAccountTotals() {
+        List<Ledger> shards = new ArrayList<>(new TreeMap<>(ledgers).values());
+
+        ArrayList<Future<double[]>> results = new ArrayList<>();
+        for (Ledger ledger : shards) {
+            results.add(pool.submit(() -> new double[]{
+                    ledger.size(),
+                    ledger.sum(transaction -> transaction.getAmount() > 0),
+                    ledger.sum(transaction -> transaction.getAmount() < 0)}));
+        }
+
+        System.out.printf(GREEN + "%n%55s%n%n" + RESET, "--Account Totals--");
+        System.out.printf("%-20s | %8s | %15s | %15s | %15s%n",
+                "Account", "Count", "Deposits", "Payments", "Balance");
+        System.out.println("-".repeat(86));
+
+        double[] grandTotal = new double[3];
+        for (int i = 0; i < shards.size(); i++) {
+            double[] totals = gather(results.get(i), shards.get(i));
+            if (totals == null) {
+                continue;
             }
-            try {
-                start = LocalDate.parse(startInput);
-                if (start.isBefore(LocalDate.now().minusYears(20)) || start.isAfter(LocalDate.now().plusYears(100))) {
-                    System.out.println(RED + "\nEntered date is unrealistic, please enter a more appropriate date." + RESET);
-                    continue;
-                }
-                break;
-            } catch (DateTimeParseException ex) {
-                System.out.println(RED + "\nInvalid date format, please enter a valid start date." + RESET);
+            System.out.printf("%-20s | %8d | %15.2f | %15.2f | %15.2f%n",
+                    shards.get(i).getAccount(), (int) totals[0], totals[1], totals[2], totals[1] + totals[2]);
+            for (int j = 0; j < grandTotal.length; j++) {
+                grandTotal[j] += totals[j];
             }
         }
+        System.out.println("-".repeat(86));
+        System.out.printf("%-20s | %8d | %15.2f | %15.2f | %15.2f%n%n",
+                "Total", (int) grandTotal[0], grandTotal[1], grandTotal[2], grandTotal[1] + grandTotal[2]);
+    }
 
+    /**
+     * Filters every account in parallel, then merges the already sorted results into one descending list
+     */
+    private static void displayMergedReport(String title, Predicate<Transaction> condition) {
+        List<Ledger> shards = new ArrayList<>(ledgers.values());
 
-        while (true) {
-            System.out.print("\nEnter end date (yyyy-MM-dd) or leave blank: ");
-            String endInput = scanner.nextLine().trim();
-            if (endInput.isEmpty()) {
-                break;
+        // Scatter: each account filters and sorts its own transactions on the thread pool
+        ArrayList<Future<List<Transaction>>> results = new ArrayList<>();
+        for (Ledger ledger : shards) {
+            results.add(pool.submit(() -> ledger.filter(condition)));
+        }
+
+        ArrayList<List<Transaction>> sorted = new ArrayList<>();
+        for (int i = 0; i < shards.size(); i++) {
+            List<Transaction> matches = gather(results.get(i), shards.get(i));
+            sorted.add(matches == null ? List.of() : matches);
+        }
+
+        System.out.printf("%n%67s%n%n", GREEN + title + RESET);
+        System.out.printf("%-15s | %-10s | %-8s | %-30s | %-20s | %10s%n",
+                "Account", "Date", "Time", "Description", "Vendor", "Amount");
+        System.out.println("-".repeat(108));
+
+        // Gather: k-way merge keeps the output sorted without re-sorting everything
+        // Each queue entry holds {shard index, position in that shard's results}
+        PriorityQueue<int[]> heads = new PriorityQueue<>((a, b) -> Ledger.NEWEST_FIRST.compare(
+                sorted.get(a[0]).get(a[1]), sorted.get(b[0]).get(b[1])));
+        for (int i = 0; i < sorted.size(); i++) {
+            if (!sorted.get(i).isEmpty()) {
+                heads.add(new int[]{i, 0});
             }
-            try {
-                end = LocalDate.parse(endInput);
-                if (end.isBefore(LocalDate.now().minusYears(20)) || end.isAfter(LocalDate.now().plusYears(100))) {
-                    System.out.println(RED + "\nEntered date is unrealistic, please enter a more appropriate date." + RESET);
-                    continue;
-                }
-                break;
-            } catch (DateTimeParseException ex) {
-                System.out.println(RED + "\nInvalid date format, please enter a valid end date." + RESET);
+        }
+
+        boolean isFound = !heads.isEmpty();
+        while (!heads.isEmpty()) {
+            int[] head = heads.poll();
+            System.out.printf("%-15s | ", shards.get(head[0]).getAccount());
+            printTransaction(sorted.get(head[0]).get(head[1]));
+            if (head[1] + 1 < sorted.get(head[0]).size()) {
+                heads.add(new int[]{head[0], head[1] + 1});
             }
         }
+        if (!isFound) {
+            System.out.println(RED + "No transactions found in any account." + RESET);
+        }
+        System.out.println();
+    }
+
+    /**
+     * Helper method to wait for a shard's result, returns null if that shard failed
+     */
+    private static <T> T gather(Future<T> result, Ledger ledger) {
+        try {
+            return result.get();
+        } catch (InterruptedException | ExecutionException ex) {
+            System.out.println(RED + "\nError reading account " + ledger.getAccount() + "." + RESET);
+            return null;
+        }
+    }
+
+    /**
+     * Prompts user for desired filter or choice to skip that filter
+     * Assumes all filters are chosen and eliminates each filter if field is left empty or doesn't match transaction values
+     */
+    private static void customSearch(Scanner scanner) {
+        List<Transaction> transactions = currentLedger.snapshot();
+        if (transactions.isEmpty()) {
+            System.out.println(RED + "\nReport is currently empty." + RESET);
+            return;
+        }
+
+        // Prompts user for start and end date, parses string, and validates input (range and format)
+        LocalDate start = promptDate(scanner, "start", true);
+        LocalDate end = promptDate(scanner, "end", true);
 
         System.out.print("\nEnter description keyword or leave blank: ");
         String desc = scanner.nextLine().trim();
@@ -408,7 +875,6 @@ public class FinancialTracker {
             }
         }
 
-        sortTransactions();
         displayLedgerTable(GREEN + "--Transactions by Custom Search--" + RESET);
 
         boolean isFound = false;
@@ -452,9 +918,10 @@ public class FinancialTracker {
      * Amounts for payment transactions are converted to negative before storing and writing to file
      */
     private static void addTransaction(Scanner scanner, boolean isPayment, String transactionType) {
+        if (isReadOnly()) {
+            return;
+        }
         try {
-            BufferedWriter writer = new BufferedWriter(new FileWriter(FILE_NAME, true));
-
             // Prompts user for date and time, parses values, and validates input (range and format)
             LocalDate date;
             LocalTime time;
@@ -492,6 +959,11 @@ public class FinancialTracker {
                     System.out.println(RED + "\nDescription cannot be empty." + RESET);
                     continue;
                 }
+                // Records are pipe-delimited, so a pipe would split the field
+                if (description.contains("|")) {
+                    System.out.println(RED + "\nDescription cannot contain '|'." + RESET);
+                    continue;
+                }
                 break;
             }
 
@@ -503,6 +975,10 @@ public class FinancialTracker {
                     System.out.println(RED + "\nVendor cannot be empty." + RESET);
                     continue;
                 }
+                if (vendor.contains("|")) {
+                    System.out.println(RED + "\nVendor cannot contain '|'." + RESET);
+                    continue;
+                }
                 break;
             }
 
@@ -533,10 +1009,8 @@ public class FinancialTracker {
                 amount = -amount;
             }
 
-            // Stores and writes transaction to file
-            transactions.add(new Transaction(date, time, description, vendor, amount));
-            writer.write(date.format(DATE_FMT) + "|" + time.format(TIME_FMT) + "|" + description + "|" + vendor + "|" + amount + "\n");
-            writer.close();
+            // Stores and writes transaction to the current account's file
+            currentLedger.append(new Transaction(date, time, description, vendor, amount));
 
             System.out.println(BLUE + "\nYou have successfully added your " + transactionType + "." + RESET);
 
@@ -545,6 +1019,99 @@ public class FinancialTracker {
         }
     }
 
+    /**
+     * Helper method to prompt user for a vendor name until it isn't empty
+     */
+    private static String promptVendor(Scanner scanner) {
+        while (true) {
+            System.out.print("\nEnter vendor name to filter transactions by vendor: ");
+            String vendor = scanner.nextLine();
+            if (vendor.isBlank()) {
+                System.out.println(RED + "\nVendor name cannot be empty." + RESET);
+                continue;
+            }
+            return vendor.trim();
+        }
+    }
+
+    /**
+     * Looks up vendor in the given accounts and, if there is no exact match, offers similar vendors to choose from
+     * Returns the chosen vendor, or the vendor as typed if there are no suggestions or none is chosen
+     */
+    private static String chooseVendor(Scanner scanner, String vendor, List<Ledger> shards) {
+        for (Ledger ledger : shards) {
+            if (ledger.findVendor(vendor) != null) {
+                return vendor;
+            }
+        }
+
+        // Each account suggests its own closest vendors on the thread pool, then the suggestions are ranked together
+        ArrayList<Future<List<String>>> results = new ArrayList<>();
+        for (Ledger ledger : shards) {
+            results.add(pool.submit(() -> ledger.suggestVendors(vendor, MAX_VENDOR_SUGGESTIONS)));
+        }
+        ArrayList<String> suggestions = new ArrayList<>();
+        for (int i = 0; i < shards.size(); i++) {
+            List<String> matches = gather(results.get(i), shards.get(i));
+            if (matches != null) {
+                suggestions.addAll(matches);
+            }
+        }
+        List<String> candidates = VendorIndex.rank(vendor, suggestions, MAX_VENDOR_SUGGESTIONS);
+        if (candidates.isEmpty()) {
+            return vendor;
+        }
+
+        System.out.println(WHITE + "\nNo exact match for vendor: " + vendor + ". Did you mean:" + RESET);
+        for (int i = 0; i < candidates.size(); i++) {
+            int count = 0;
+            for (Ledger ledger : shards) {
+                count += ledger.countVendor(candidates.get(i));
+            }
+            System.out.printf("%d) %s (%d transactions)%n", i + 1, candidates.get(i), count);
+        }
+
+        while (true) {
+            System.out.print(WHITE + "Choose a vendor or leave blank to search as typed: " + RESET);
+            String input = scanner.nextLine().trim();
+            if (input.isEmpty()) {
+                return vendor;
+            }
+            try {
+                int choice = Integer.parseInt(input);
+                if (choice >= 1 && choice <= candidates.size()) {
+                    return candidates.get(choice - 1);
+                }
+            } catch (NumberFormatException ignored) {
+            }
+            System.out.println(RED + "\nInvalid option." + RESET);
+        }
+    }
+
+    /**
+     * Helper method to prompt user for a date, parse it, and validate input (range and format)
+     * Returns null if blank input is allowed and left empty
+     */
+    private static LocalDate promptDate(Scanner scanner, String label, boolean isOptional) {
+        while (true) {
+            System.out.print("\nEnter " + label + " date (yyyy-MM-dd)" + (isOptional ? " or leave blank: " : ": "));
+            String input = scanner.nextLine().trim();
+            if (input.isEmpty() && isOptional) {
+                return null;
+            }
+            try {
+                LocalDate date = LocalDate.parse(input);
+                if (date.isBefore(LocalDate.now().minusYears(20)) || date.isAfter(LocalDate.now().plusYears(100))) {
+                    System.out.println(RED + "\nEntered date is unrealistic, please enter a more appropriate date." + RESET);
+                    continue;
+                }
+                return date;
+            } catch (DateTimeParseException ex) {
+                System.out.println(RED + "\nInvalid date format, please enter a valid " + label + " date." + RESET);
+            }
+        }
+    }
+
     /**
      * Helper method to iterate through and print transactions in arraylist
      */
@@ -567,15 +1134,6 @@ public class FinancialTracker {
         System.out.println("-".repeat(90));
     }
 
-    /**
-     * Helper method to sort transactions in descending order
-     */
-    private static void sortTransactions() {
-        transactions.sort(Comparator.comparing(Transaction::getDate)
-                .thenComparing(Transaction::getTime)
-                .reversed());
-    }
-
     /*private static void displayTransaction(String displayType) {
         // Dynamically scale column width based on length of description and vendor?
         transactions.sort(Comparator.comparing(Transaction::getDate)
@@ -0,0 +1,531 @@
+package com.pluralsight;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * A single account's transactions backed by its own CSV file
+ * Each ledger is an independent shard with its own lock, so accounts never block each other
+ * The file is append-only: edits and deletes are written as U|id|... and D|id records after the original row
+ * The file is always read and written as UTF-8 so it can be copied to replicas unchanged
+ */
+public class Ledger {
+    public static final Comparator<Transaction> NEWEST_FIRST = Comparator.comparing(Transaction::getDate)
+            .thenComparing(Transaction::getTime)
+            .reversed();
+
+    private static final DateTimeFormatter DATE_FMT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter TIME_FMT = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    private static final String UPDATE = "U";
+    private static final String DELETE = "D";
+    // Compacts once a quarter of the file's records are superseded or deleted
+    private static final int COMPACTION_RATIO = 4;
+
+    private final String account;
+    private final String fileName;
+    // Transaction id is its position + 1, deleted transactions leave a null so later ids don't shift
+    private final ArrayList<Transaction> transactions = new ArrayList<>();
+    private VendorIndex vendors = new VendorIndex();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AlertEngine alerts;
+    // Ships every record written to the file to replicas, null when not running as a primary
+    private final LogShipper shipper;
+    private int liveCount;
+    private int recordCount;
+    // Records in the file that couldn't be replayed; compaction would drop them, so it is skipped while any exist
+    private int corruptCount;
+
+    public Ledger(String account, String fileName, AlertEngine alerts, LogShipper shipper) {
+        this.account = account;
+        this.fileName = fileName;
+        this.alerts = alerts;
+        this.shipper = shipper;
+    }
+
+    public String getAccount() {
+        return account;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * Reads file line-by-line, parsing each record and replaying edits and deletes in order
+     */
+    public void load() throws IOException {
+        // Creates new file object if file isn't found
+        File file = new File(fileName);
+        if (!file.exists()) {
+            file.createNewFile();
+        }
+
+        ArrayList<String> records = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(file, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                records.add(line);
+            }
+        }
+        loadRecords(records, fileName);
+    }
+
+    /**
+     * Replaces everything in memory with the state built by replaying the given file records
+     * Used when loading the file and when a replica loads a snapshot; alert totals are only seeded,
+     * so ledgers with alert rules should load their records once
+     */
+    public void loadRecords(List<String> records, String source) {
+        ArrayList<Transaction> loaded = new ArrayList<>();
+        int count = 0;
+        int corrupt = 0;
+        for (String record : records) {
+            if (record.isBlank()) {
+                continue;
+            }
+            count++;
+            if (!replay(loaded, record)) {
+                corrupt++;
+                System.out.println(FinancialTracker.RED + "\nError extracting file content, please check " +
+                        source + " for corrupted data." + FinancialTracker.RESET);
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            transactions.clear();
+            transactions.addAll(loaded);
+            vendors = new VendorIndex();
+            recordCount = count;
+            corruptCount = corrupt;
+            liveCount = 0;
+            // Existing history only builds up the alert totals, alerts fire for new transactions
+            for (Transaction transaction : loaded) {
+                if (transaction != null) {
+                    liveCount++;
+                    vendors.add(transaction.getVendor());
+                    alerts.seed(account, transaction);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies one file record to the list of transactions, returns false if the record is corrupted
+     */
+    private static boolean replay(ArrayList<Transaction> rows, String line) {
+        String[] parts = line.split("\\|", 3);
+        if (!parts[0].equals(UPDATE) && !parts[0].equals(DELETE)) {
+            Transaction transaction = parse(line);
+            rows.add(transaction);
+            return transaction != null;
+        }
+
+        try {
+            int index = Integer.parseInt(parts[1]) - 1;
+            if (index < 0 || index >= rows.size() || rows.get(index) == null) {
+                return false;
+            }
+            if (parts[0].equals(DELETE)) {
+                rows.set(index, null);
+                return parts.length == 2;
+            }
+            Transaction transaction = parts.length == 3 ? parse(parts[2]) : null;
+            if (transaction == null) {
+                return false;
+            }
+            rows.set(index, transaction);
+            return true;
+        } catch (NumberFormatException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Writes transaction to the end of the file, stores it in memory, and evaluates alert rules
+     */
+    public void append(Transaction transaction) throws IOException {
+        lock.writeLock().lock();
+        try {
+            writeRecord(format(transaction));
+            addRow(transaction);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces transaction with the given id by appending an update record
+     * Returns false if the transaction was changed, deleted, or renumbered since it was read
+     */
+    public boolean update(int id, Transaction expected, Transaction transaction) throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (get(id) != expected || expected == null) {
+                return false;
+            }
+            writeRecord(UPDATE + "|" + id + "|" + format(transaction));
+            replaceRow(id, expected, transaction);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes transaction with the given id by appending a tombstone record
+     * Returns false if the transaction was changed, deleted, or renumbered since it was read
+     */
+    public boolean delete(int id, Transaction expected) throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (get(id) != expected || expected == null) {
+                return false;
+            }
+            writeRecord(DELETE + "|" + id);
+            removeRow(id, expected);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies one record shipped from a primary without writing it anywhere (used by replicas)
+     * Returns false if the record is corrupted or refers to a transaction that doesn't exist
+     */
+    public boolean applyRecord(String record) {
+        lock.writeLock().lock();
+        try {
+            String[] parts = record.split("\\|", 3);
+            if (!parts[0].equals(UPDATE) && !parts[0].equals(DELETE)) {
+                Transaction transaction = parse(record);
+                if (transaction == null) {
+                    return false;
+                }
+                addRow(transaction);
+                recordCount++;
+                return true;
+            }
+
+            int id = Integer.parseInt(parts[1]);
+            Transaction previous = get(id);
+            Transaction transaction = parts.length == 3 ? parse(parts[2]) : null;
+            if (previous == null || (parts[0].equals(UPDATE) && transaction == null)) {
+                return false;
+            }
+            if (parts[0].equals(DELETE)) {
+                removeRow(id, previous);
+            } else {
+                replaceRow(id, previous, transaction);
+            }
+            recordCount++;
+            return true;
+        } catch (NumberFormatException ex) {
+            return false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Helper methods to change a row and keep the vendor index and alert totals in step
+     * Must be called while holding the write lock
+     */
+    private void addRow(Transaction transaction) {
+        transactions.add(transaction);
+        liveCount++;
+        vendors.add(transaction.getVendor());
+        alerts.onAppend(account, transaction);
+    }
+
+    private void replaceRow(int id, Transaction previous, Transaction transaction) {
+        transactions.set(id - 1, transaction);
+        vendors.remove(previous.getVendor());
+        vendors.add(transaction.getVendor());
+        alerts.onUpdate(account, previous, transaction);
+    }
+
+    private void removeRow(int id, Transaction previous) {
+        transactions.set(id - 1, null);
+        liveCount--;
+        vendors.remove(previous.getVendor());
+        alerts.onRemove(account, previous);
+    }
+
+    /**
+     * Helper method to append one record to the file and ship it to replicas
+     * Must be called while holding the write lock
+     */
+    private void writeRecord(String record) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(fileName, StandardCharsets.UTF_8, true))) {
+            writer.write(record + "\n");
+        }
+        recordCount++;
+        if (shipper != null) {
+            shipper.ship(account, fileName, record);
+        }
+    }
+
+    /**
+     * Publishes the whole file as a new snapshot for replicas to catch up from
+     */
+    public void publishSnapshot() {
+        if (shipper == null) {
+            return;
+        }
+        // Read lock keeps the file from changing while it is copied
+        lock.readLock().lock();
+        try {
+            shipper.rebase(account, fileName);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Checks if enough of the file is superseded or deleted records to be worth rewriting
+     * Never true while the file holds corrupted records, those are left for the user to fix
+     */
+    public boolean needsCompaction() {
+        lock.readLock().lock();
+        try {
+            if (corruptCount > 0) {
+                return false;
+            }
+            int dead = recordCount - liveCount;
+            return dead > 0 && dead * COMPACTION_RATIO >= recordCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rewrites the file with only the current version of each transaction and swaps it in atomically
+     * The slow file writes, including the replica snapshot, happen without holding the lock; if anything was
+     * written meanwhile the rewrite is thrown away and tried again on the next run. Transactions are renumbered afterwards.
+     * Returns true if the file was compacted, files with corrupted records are never rewritten
+     */
+    public boolean compact() throws IOException {
+        ArrayList<Transaction> live = new ArrayList<>();
+        int records;
+        long seq = 0;
+        lock.readLock().lock();
+        try {
+            if (corruptCount > 0) {
+                return false;
+            }
+            records = recordCount;
+            if (shipper != null) {
+                seq = shipper.nextSequence(account);
+            }
+            for (Transaction transaction : transactions) {
+                if (transaction != null) {
+                    live.add(transaction);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (records == live.size()) {
+            return false;
+        }
+
+        Path target = Path.of(fileName);
+        Path temp = Path.of(fileName + ".compact");
+        try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            for (Transaction transaction : live) {
+                writer.write(format(transaction) + "\n");
+            }
+        }
+        // Ids are renumbered, so replicas start over from a snapshot of the compacted file
+        Path snapshot = shipper == null ? null : shipper.prepareSnapshot(account, seq, temp);
+
+        lock.writeLock().lock();
+        try {
+            if (recordCount != records) {
+                Files.deleteIfExists(temp);
+                if (snapshot != null) {
+                    Files.deleteIfExists(snapshot);
+                }
+                return false;
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            transactions.clear();
+            transactions.addAll(live);
+            recordCount = live.size();
+            // A snapshot published meanwhile (or one that failed to write) means copying the file under the lock
+            if (shipper != null && (snapshot == null || !shipper.publish(account, seq, snapshot))) {
+                shipper.rebase(account, fileName);
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns transaction with the given id, or null if there is none
+     */
+    public Transaction get(int id) {
+        lock.readLock().lock();
+        try {
+            return id >= 1 && id <= transactions.size() ? transactions.get(id - 1) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns a copy of all transactions keyed by id
+     */
+    public Map<Integer, Transaction> entries() {
+        TreeMap<Integer, Transaction> entries = new TreeMap<>();
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < transactions.size(); i++) {
+                if (transactions.get(i) != null) {
+                    entries.put(i + 1, transactions.get(i));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return entries;
+    }
+
+    /**
+     * Returns a copy of all transactions sorted in descending order
+     */
+    public List<Transaction> snapshot() {
+        return filter(transaction -> true);
+    }
+
+    /**
+     * Returns a copy of transactions that meet the condition, sorted in descending order
+     */
+    public List<Transaction> filter(Predicate<Transaction> condition) {
+        ArrayList<Transaction> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Transaction transaction : transactions) {
+                if (transaction != null && condition.test(transaction)) {
+                    matches.add(transaction);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        matches.sort(NEWEST_FIRST);
+        return matches;
+    }
+
+    /**
+     * Adds up amounts of transactions that meet the condition
+     */
+    public double sum(Predicate<Transaction> condition) {
+        double total = 0;
+        lock.readLock().lock();
+        try {
+            for (Transaction transaction : transactions) {
+                if (transaction != null && condition.test(transaction)) {
+                    total += transaction.getAmount();
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return total;
+    }
+
+    /**
+     * Returns the stored spelling of vendor if this ledger has it (ignoring case), otherwise null
+     */
+    public String findVendor(String vendor) {
+        lock.readLock().lock();
+        try {
+            return vendors.find(vendor);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns number of transactions recorded for vendor
+     */
+    public int countVendor(String vendor) {
+        lock.readLock().lock();
+        try {
+            return vendors.count(vendor);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns vendors with spellings similar to the query, best match first
+     */
+    public List<String> suggestVendors(String query, int limit) {
+        lock.readLock().lock();
+        try {
+            return vendors.search(query, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Splits line based on pipe location and parses each field, returns null if line is corrupted
+     */
+    static Transaction parse(String line) {
+        String[] parts = line.split("\\|");
+        if (parts.length != 5) {
+            return null;
+        }
+        try {
+            LocalDate date = LocalDate.parse(parts[0]);
+            LocalTime time = LocalTime.parse(parts[1]);
+            double amount = Double.parseDouble(parts[4]);
+            return new Transaction(date, time, parts[2], parts[3], amount);
+        } catch (Exception ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Formats transaction as a pipe-delimited line for the file
+     */
+    static String format(Transaction transaction) {
+        return transaction.getDate().format(DATE_FMT) + "|" + transaction.getTime().format(TIME_FMT) + "|" +
+                transaction.getDescription() + "|" + transaction.getVendor() + "|" + transaction.getAmount();
+    }
+}
@@ -0,0 +1,262 @@
+package com.pluralsight;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Follows the shipping directory written by a primary's LogShipper and keeps read-only ledgers up to date
+ * Each account starts from its snapshot and then applies new log entries in sequence order,
+ * reloading the snapshot whenever the primary rebased or an entry is missing
+ */
+public class LogReplica {
+    private final String directory;
+    private final Map<String, Ledger> ledgers;
+    // Replicas never raise alerts, the primary already did
+    private final AlertEngine alerts = new AlertEngine(null);
+    private final Map<String, Progress> progress = new ConcurrentHashMap<>();
+
+    /**
+     * How far one account has caught up with the primary
+     */
+    public static class Progress {
+        private final String account;
+        private volatile long appliedSeq;
+        // Last sequence found in the primary's log, whether or not it could be applied
+        private volatile long headSeq;
+        private volatile long delayMillis;
+        private volatile long lastPollMillis;
+        private volatile int snapshotsLoaded;
+        private volatile String error;
+        // Only touched by the polling thread
+        private long logBase = -1;
+        private long logOffset;
+        // Sequence of the bad entry that last forced a snapshot reload, so a bad log isn't reloaded every poll
+        private long reloadedAt = -1;
+
+        private Progress(String account) {
+            this.account = account;
+        }
+
+        public String getAccount() {
+            return account;
+        }
+
+        public long getAppliedSeq() {
+            return appliedSeq;
+        }
+
+        /**
+         * Returns number of entries the primary has shipped that aren't applied yet
+         */
+        public long getBehind() {
+            return Math.max(0, headSeq - appliedSeq);
+        }
+
+        /**
+         * Returns milliseconds between the primary writing the last applied entry and the replica applying it
+         */
+        public long getDelayMillis() {
+            return delayMillis;
+        }
+
+        public long getLastPollMillis() {
+            return lastPollMillis;
+        }
+
+        public int getSnapshotsLoaded() {
+            return snapshotsLoaded;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+
+    public LogReplica(String directory, Map<String, Ledger> ledgers) {
+        this.directory = directory;
+        this.ledgers = ledgers;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Returns progress of every followed account in alphabetical order
+     */
+    public Map<String, Progress> getProgress() {
+        return new TreeMap<>(progress);
+    }
+
+    /**
+     * Picks up new accounts and applies new log entries for every account, called on a timer
+     */
+    public void poll() {
+        File[] snapshots = new File(directory).listFiles((dir, name) -> name.endsWith(LogShipper.SNAPSHOT_EXTENSION));
+        if (snapshots == null) {
+            return;
+        }
+
+        for (File snapshot : snapshots) {
+            String name = snapshot.getName();
+            String account = name.substring(0, name.length() - LogShipper.SNAPSHOT_EXTENSION.length());
+            Progress current = progress.computeIfAbsent(account, Progress::new);
+            try {
+                follow(current);
+                current.error = null;
+            } catch (IOException | RuntimeException ex) {
+                current.error = ex.getMessage();
+            }
+            current.lastPollMillis = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Reads complete log lines after the last offset, verifying each checksum and sequence number before applying it
+     * A damaged or unusable entry is handled like a missing one by reloading the snapshot, once per entry
+     */
+    private void follow(Progress current) throws IOException {
+        if (current.logBase < 0) {
+            loadSnapshot(current);
+        }
+
+        Path log = Path.of(directory, current.account + LogShipper.LOG_EXTENSION);
+        if (!Files.exists(log)) {
+            return;
+        }
+
+        try (RandomAccessFile file = new RandomAccessFile(log.toFile(), "r")) {
+            String header = file.readLine();
+            if (header == null || !header.startsWith(LogShipper.BASE + "|")) {
+                return;
+            }
+
+            // A different base means the primary published a new snapshot and started a new log
+            long base = Long.parseLong(header.substring(LogShipper.BASE.length() + 1).trim());
+            if (base != current.logBase) {
+                if (base > current.appliedSeq) {
+                    loadSnapshot(current);
+                    return;
+                }
+                current.logBase = base;
+                current.logOffset = 0;
+            }
+            current.logOffset = Math.max(current.logOffset, file.getFilePointer());
+
+            long length = file.length();
+            if (length <= current.logOffset) {
+                return;
+            }
+            byte[] bytes = new byte[(int) (length - current.logOffset)];
+            file.seek(current.logOffset);
+            file.readFully(bytes);
+
+            // Only complete lines are read, a line still being written is picked up next poll
+            int end = bytes.length;
+            while (end > 0 && bytes[end - 1] != '\n') {
+                end--;
+            }
+            current.headSeq = Math.max(current.headSeq, lastSequence(bytes, end));
+
+            Ledger ledger = ledgers.get(current.account.toLowerCase());
+            int start = 0;
+            for (int i = 0; i < end; i++) {
+                if (bytes[i] != '\n') {
+                    continue;
+                }
+                String line = new String(bytes, start, i - start, StandardCharsets.UTF_8);
+                String[] parts = line.split("\\|", 4);
+                long seq;
+                long millis;
+                try {
+                    seq = Long.parseLong(parts[0]);
+                    millis = Long.parseLong(parts[1]);
+                } catch (RuntimeException ex) {
+                    seq = -1;
+                    millis = 0;
+                }
+                if (parts.length != 4 || seq < 0 ||
+                        !LogShipper.checksum(seq + "|" + millis + "|" + parts[3]).equals(parts[2])) {
+                    long at = current.appliedSeq + 1;
+                    if (current.reloadedAt == at) {
+                        throw new IOException("damaged log entry at sequence " + at + ", waiting for a new snapshot");
+                    }
+                    loadSnapshot(current);
+                    current.reloadedAt = at;
+                    return;
+                }
+
+                if (seq > current.appliedSeq + 1) {
+                    // Missing entries mean this replica fell out of step
+                    loadSnapshot(current);
+                    return;
+                }
+                if (seq == current.appliedSeq + 1 && !ledger.applyRecord(parts[3])) {
+                    // A record that doesn't fit gets one reload, if it still doesn't fit the log itself is bad
+                    if (current.reloadedAt == seq) {
+                        throw new IOException("log entry at sequence " + seq + " can't be applied, waiting for a new snapshot");
+                    }
+                    loadSnapshot(current);
+                    current.reloadedAt = seq;
+                    return;
+                }
+                if (seq == current.appliedSeq + 1) {
+                    current.appliedSeq = seq;
+                    current.delayMillis = System.currentTimeMillis() - millis;
+                }
+                start = i + 1;
+                current.logOffset += line.getBytes(StandardCharsets.UTF_8).length + 1;
+            }
+        }
+    }
+
+    /**
+     * Returns sequence number of the last complete line in bytes, or 0 if it can't be read
+     */
+    private static long lastSequence(byte[] bytes, int end) {
+        if (end == 0) {
+            return 0;
+        }
+        int start = end - 1;
+        while (start > 0 && bytes[start - 1] != '\n') {
+            start--;
+        }
+        int separator = start;
+        while (separator < end && bytes[separator] != '|') {
+            separator++;
+        }
+        try {
+            return Long.parseLong(new String(bytes, start, separator - start, StandardCharsets.UTF_8));
+        } catch (NumberFormatException ex) {
+            return 0;
+        }
+    }
+
+    /**
+     * Replaces the account's ledger with the primary's latest snapshot and reads its log from the start
+     */
+    private void loadSnapshot(Progress current) throws IOException {
+        List<String> lines = Files.readAllLines(Path.of(directory, current.account + LogShipper.SNAPSHOT_EXTENSION),
+                StandardCharsets.UTF_8);
+        if (lines.isEmpty()) {
+            return;
+        }
+        long seq = Long.parseLong(lines.get(0).trim());
+
+        Ledger ledger = ledgers.computeIfAbsent(current.account.toLowerCase(),
+                key -> new Ledger(current.account, null, alerts, null));
+        ledger.loadRecords(lines.subList(1, lines.size()), "snapshot for account " + current.account);
+
+        current.appliedSeq = seq;
+        current.headSeq = Math.max(current.headSeq, seq);
+        current.logBase = seq;
+        current.logOffset = 0;
+        current.snapshotsLoaded++;
+    }
+}
@@ -0,0 +1,198 @@
+package com.pluralsight;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * Ships every ledger record written by the primary to a shared directory that replicas follow
+ * Each account gets two files in the directory:
+ * - account.snapshot: first line is the sequence number it was taken at, then the ledger file's records
+ * - account.log: first line is base|seq of its snapshot, then one seq|millis|checksum|record line per write
+ * Both files are always UTF-8, the same encoding the checksum is computed over
+ * Callers must hold the ledger's lock so records for one account are shipped in order
+ */
+public class LogShipper {
+    public static final String SNAPSHOT_EXTENSION = ".snapshot";
+    public static final String LOG_EXTENSION = ".log";
+    public static final String BASE = "base";
+
+    private final String directory;
+    // Last sequence number shipped for each account
+    private final Map<String, Long> sequences = new ConcurrentHashMap<>();
+    // Accounts whose last ship failed and need a fresh snapshot before shipping again
+    private final Set<String> stale = ConcurrentHashMap.newKeySet();
+
+    public LogShipper(String directory) {
+        this.directory = directory;
+        new File(directory).mkdirs();
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Appends record to the account's log with the next sequence number
+     * If shipping fails the account is marked stale, the next write then publishes a snapshot instead
+     */
+    public void ship(String account, String fileName, String record) {
+        if (stale.contains(account)) {
+            rebase(account, fileName);
+            return;
+        }
+
+        long seq = nextSequence(account);
+        try (BufferedWriter writer = new BufferedWriter(
+                new FileWriter(logPath(account).toFile(), StandardCharsets.UTF_8, true))) {
+            writer.write(formatEntry(seq, System.currentTimeMillis(), record) + "\n");
+            sequences.put(account, seq);
+        } catch (IOException ex) {
+            stale.add(account);
+            System.err.println(FinancialTracker.RED + "\nError shipping record for account " + account + "." +
+                    FinancialTracker.RESET);
+        }
+    }
+
+    /**
+     * Copies the ledger file into a new snapshot and starts an empty log after it
+     * The snapshot takes the next sequence number so replicas at any earlier point reload from it
+     */
+    public void rebase(String account, String fileName) {
+        long seq = nextSequence(account);
+        Path snapshot = prepareSnapshot(account, seq, Path.of(fileName));
+        if (snapshot != null) {
+            publish(account, seq, snapshot);
+        }
+    }
+
+    /**
+     * Returns the sequence number the next entry or snapshot for account will take
+     */
+    public long nextSequence(String account) {
+        return lastSequence(account) + 1;
+    }
+
+    /**
+     * Writes a snapshot of the given ledger file to a temporary file, returns null if it couldn't be written
+     * This is the slow part of a rebase and doesn't need the ledger's lock as long as the file doesn't change
+     */
+    public Path prepareSnapshot(String account, long seq, Path source) {
+        Path snapshotTemp = null;
+        try {
+            snapshotTemp = Files.createTempFile(Path.of(directory), account + SNAPSHOT_EXTENSION, ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(snapshotTemp, StandardCharsets.UTF_8)) {
+                writer.write(seq + "\n");
+                for (String record : Files.readAllLines(source, StandardCharsets.UTF_8)) {
+                    writer.write(record + "\n");
+                }
+            }
+            return snapshotTemp;
+        } catch (IOException ex) {
+            discard(snapshotTemp);
+            stale.add(account);
+            System.err.println(FinancialTracker.RED + "\nError publishing snapshot for account " + account + "." +
+                    FinancialTracker.RESET);
+            return null;
+        }
+    }
+
+    /**
+     * Swaps in a prepared snapshot and starts an empty log after it, both atomically so replicas never
+     * read a half-written file. Returns false without publishing if anything was shipped since seq was taken
+     * Callers must hold the ledger's lock
+     */
+    public boolean publish(String account, long seq, Path snapshotTemp) {
+        if (nextSequence(account) != seq) {
+            discard(snapshotTemp);
+            return false;
+        }
+        try {
+            Files.move(snapshotTemp, Path.of(directory, account + SNAPSHOT_EXTENSION),
+                    StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+            Path logTemp = Path.of(directory, account + LOG_EXTENSION + ".tmp");
+            Files.writeString(logTemp, BASE + "|" + seq + "\n", StandardCharsets.UTF_8);
+            Files.move(logTemp, logPath(account), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+            sequences.put(account, seq);
+            stale.remove(account);
+        } catch (IOException ex) {
+            discard(snapshotTemp);
+            stale.add(account);
+            System.err.println(FinancialTracker.RED + "\nError publishing snapshot for account " + account + "." +
+                    FinancialTracker.RESET);
+        }
+        return true;
+    }
+
+    /**
+     * Helper method to delete a prepared snapshot that won't be published
+     */
+    private static void discard(Path snapshotTemp) {
+        try {
+            if (snapshotTemp != null) {
+                Files.deleteIfExists(snapshotTemp);
+            }
+        } catch (IOException ex) {
+            // Only leaves a stray temporary file behind
+        }
+    }
+
+    /**
+     * Returns the last sequence number shipped for account, picking up where a previous run left off
+     */
+    private long lastSequence(String account) {
+        Long seq = sequences.get(account);
+        if (seq != null) {
+            return seq;
+        }
+
+        long last = 0;
+        try {
+            Path snapshot = Path.of(directory, account + SNAPSHOT_EXTENSION);
+            if (Files.exists(snapshot)) {
+                try (BufferedReader reader = Files.newBufferedReader(snapshot, StandardCharsets.UTF_8)) {
+                    last = Long.parseLong(reader.readLine().trim());
+                }
+            }
+            if (Files.exists(logPath(account))) {
+                List<String> lines = Files.readAllLines(logPath(account), StandardCharsets.UTF_8);
+                for (String line : lines) {
+                    // Header line is base|seq, entry lines start with their seq
+                    String[] parts = line.split("\\|");
+                    last = Math.max(last, Long.parseLong(parts[0].equals(BASE) ? parts[1] : parts[0]));
+                }
+            }
+        } catch (IOException | RuntimeException ex) {
+            // Unreadable history only means replicas reload the next snapshot
+        }
+        sequences.put(account, last);
+        return last;
+    }
+
+    private Path logPath(String account) {
+        return Path.of(directory, account + LOG_EXTENSION);
+    }
+
+    /**
+     * Formats one log line, the checksum covers the sequence number, timestamp, and record
+     */
+    static String formatEntry(long seq, long millis, String record) {
+        String body = seq + "|" + millis + "|" + record;
+        return seq + "|" + millis + "|" + checksum(body) + "|" + record;
+    }
+
+    static String checksum(String text) {
+        CRC32 crc = new CRC32();
+        crc.update(text.getBytes(StandardCharsets.UTF_8));
+        return Long.toHexString(crc.getValue());
+    }
+}
@@ -0,0 +1,312 @@
+package com.pluralsight;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Trigram index over the distinct vendors of a ledger for typo-tolerant vendor lookup
+ * Posting lists are split by vendor length and read one length at a time, starting with the lengths closest
+ * to the query, so every vendor read gets its exact score. Lengths and vendors too far from the query to
+ * beat the best matches found so far are skipped, so edit distance is only worked out for a few vendors
+ */
+public class VendorIndex {
+    private static final double MIN_SCORE = 0.3;
+    // Posting lists are bucketed by vendor trigram count, longer vendors share the last bucket
+    private static final int LENGTH_BUCKETS = 64;
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]+");
+
+    // Vendor id -> display name, lowercase name and its length, transaction count, and number of trigrams
+    private final ArrayList<String> names = new ArrayList<>();
+    private final ArrayList<String> keys = new ArrayList<>();
+    private int[] lengths = new int[16];
+    private int[] counts = new int[16];
+    private int[] sizes = new int[16];
+    // Lowercase vendor -> vendor id
+    private final Map<String, Integer> ids = new HashMap<>();
+    // Trigram -> trigram id, and trigram id -> length bucket -> ids of vendors with transactions containing it
+    // (first slot holds the size)
+    private final Map<String, Integer> gramIds = new HashMap<>();
+    private final ArrayList<int[][]> postings = new ArrayList<>();
+    // Per-thread arrays reused between queries, reads may run in parallel under the ledger's read lock
+    private final ThreadLocal<int[][]> scratch = ThreadLocal.withInitial(() -> new int[3][0]);
+
+    /**
+     * Counts one more transaction for vendor, indexing its trigrams when it gets its first transaction
+     */
+    public void add(String vendor) {
+        String key = vendor.trim().toLowerCase();
+        Integer id = ids.get(key);
+        if (id == null) {
+            id = names.size();
+            names.add(vendor.trim());
+            keys.add(key);
+            if (id == counts.length) {
+                lengths = Arrays.copyOf(lengths, lengths.length * 2);
+                counts = Arrays.copyOf(counts, counts.length * 2);
+                sizes = Arrays.copyOf(sizes, sizes.length * 2);
+            }
+            lengths[id] = key.length();
+            ids.put(key, id);
+        }
+        if (counts[id]++ > 0) {
+            return;
+        }
+
+        Set<String> grams = trigrams(key);
+        sizes[id] = grams.size();
+        int bucket = Math.min(grams.size(), LENGTH_BUCKETS - 1);
+        for (String gram : grams) {
+            int gramId = gramIds.computeIfAbsent(gram, k -> {
+                postings.add(new int[LENGTH_BUCKETS][]);
+                return postings.size() - 1;
+            });
+            int[][] buckets = postings.get(gramId);
+            int[] vendorIds = buckets[bucket] == null ? new int[4] : buckets[bucket];
+            if (vendorIds[0] + 1 == vendorIds.length) {
+                vendorIds = Arrays.copyOf(vendorIds, vendorIds.length * 2);
+            }
+            vendorIds[++vendorIds[0]] = id;
+            buckets[bucket] = vendorIds;
+        }
+    }
+
+    /**
+     * Counts one less transaction for vendor, vendors left with no transactions are dropped from the
+     * posting lists so searches no longer read or suggest them
+     */
+    public void remove(String vendor) {
+        String key = vendor.trim().toLowerCase();
+        Integer id = ids.get(key);
+        if (id == null || counts[id] == 0 || --counts[id] > 0) {
+            return;
+        }
+
+        Set<String> grams = trigrams(key);
+        int bucket = Math.min(grams.size(), LENGTH_BUCKETS - 1);
+        for (String gram : grams) {
+            int[] vendorIds = postings.get(gramIds.get(gram))[bucket];
+            for (int i = 1; i <= vendorIds[0]; i++) {
+                if (vendorIds[i] == id) {
+                    // Order within a list doesn't matter, so the last id fills the gap
+                    vendorIds[i] = vendorIds[vendorIds[0]--];
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the stored spelling of vendor if it matches exactly (ignoring case), otherwise null
+     */
+    public String find(String vendor) {
+        Integer id = ids.get(vendor.trim().toLowerCase());
+        return id == null || counts[id] == 0 ? null : names.get(id);
+    }
+
+    public int count(String vendor) {
+        Integer id = ids.get(vendor.trim().toLowerCase());
+        return id == null ? 0 : counts[id];
+    }
+
+    /**
+     * Returns up to limit vendors most similar to the query (best match first)
+     * Vendors are scored by averaging trigram similarity (Dice coefficient) with edit distance similarity,
+     * so a close spelling beats a longer vendor that merely contains the query's trigrams
+     */
+    public List<String> search(String query, int limit) {
+        String key = query.trim().toLowerCase();
+        Set<String> grams = trigrams(key);
+        int queryCount = grams.size();
+
+        ArrayList<Integer> queryGrams = new ArrayList<>();
+        for (String gram : grams) {
+            Integer gramId = gramIds.get(gram);
+            if (gramId != null) {
+                queryGrams.add(gramId);
+            }
+        }
+        if (queryGrams.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        // Length buckets ordered by distance from the query's length, shorter first on ties
+        int center = Math.min(queryCount, LENGTH_BUCKETS - 1);
+        int[] lengthOrder = new int[LENGTH_BUCKETS];
+        int ordered = 0;
+        for (int distance = 0; ordered < LENGTH_BUCKETS; distance++) {
+            if (center - distance >= 0) {
+                lengthOrder[ordered++] = center - distance;
+            }
+            if (distance > 0 && center + distance < LENGTH_BUCKETS) {
+                lengthOrder[ordered++] = center + distance;
+            }
+        }
+
+        int[][] arrays = scratch.get();
+        if (arrays[0].length < names.size()) {
+            arrays[0] = new int[names.size()];
+            arrays[1] = new int[names.size()];
+            arrays[2] = new int[names.size()];
+        }
+        int[] shared = arrays[0];
+        int[] touched = arrays[1];
+        int[] byShared = arrays[2];
+        int[] starts = new int[queryCount + 2];
+
+        // Keeps the best matches in a min-heap, floor is the score to beat once it is full
+        PriorityQueue<double[]> best = new PriorityQueue<>(Comparator.comparingDouble(entry -> entry[1]));
+        double floor = 0;
+        for (int length : lengthOrder) {
+            // Best scores any vendor of this length could reach, the last bucket's vendors are at least this long
+            // A vendor with n trigrams has at least n - 1 characters, and edits can't be fewer than the length difference
+            double diceBound = 2.0 * Math.min(queryCount, length) / (queryCount + length);
+            double similarityBound = length - 1 > key.length() ? (double) key.length() / (length - 1) : 1.0;
+            if (diceBound < MIN_SCORE || (best.size() == limit && (diceBound + similarityBound) / 2 <= floor)) {
+                continue;
+            }
+
+            // Every query trigram's list for this length is read in full, so shared counts are exact
+            int touchedCount = 0;
+            for (int gramId : queryGrams) {
+                int[] vendorIds = postings.get(gramId)[length];
+                if (vendorIds == null) {
+                    continue;
+                }
+                for (int i = 1; i <= vendorIds[0]; i++) {
+                    int id = vendorIds[i];
+                    if (shared[id]++ == 0) {
+                        touched[touchedCount++] = id;
+                    }
+                }
+            }
+
+            // Sorts this length's vendors by shared trigrams, most first
+            Arrays.fill(starts, 0);
+            for (int i = 0; i < touchedCount; i++) {
+                starts[queryCount - shared[touched[i]] + 1]++;
+            }
+            for (int i = 1; i < starts.length; i++) {
+                starts[i] += starts[i - 1];
+            }
+            for (int i = 0; i < touchedCount; i++) {
+                byShared[starts[queryCount - shared[touched[i]]]++] = touched[i];
+            }
+
+            // Scores vendors until even the next one's best possible score can't beat the floor
+            for (int i = 0; i < touchedCount; i++) {
+                int id = byShared[i];
+                double bound = 2.0 * shared[id] / (queryCount + length);
+                if (bound < MIN_SCORE || (best.size() == limit && (bound + 1) / 2 <= floor)) {
+                    break;
+                }
+                double dice = 2.0 * shared[id] / (queryCount + sizes[id]);
+                if (dice < MIN_SCORE || (best.size() == limit && (dice + 1) / 2 <= floor)) {
+                    continue;
+                }
+
+                // Edits allowed while this vendor still beats the floor, allowing for rounding so exact ties are skipped
+                int longest = Math.max(key.length(), lengths[id]);
+                int maxEdits = best.size() < limit ? longest
+                        : (int) Math.ceil((dice + 1 - 2 * floor) * longest - 1e-9) - 1;
+                if (Math.abs(key.length() - lengths[id]) > maxEdits) {
+                    continue;
+                }
+                int edits = editDistance(key, keys.get(id), maxEdits);
+                double score = (dice + 1.0 - (double) edits / longest) / 2;
+                if (edits > maxEdits || (best.size() == limit && score <= floor)) {
+                    continue;
+                }
+                best.add(new double[]{id, score});
+                if (best.size() > limit) {
+                    best.poll();
+                }
+                if (best.size() == limit) {
+                    floor = best.peek()[1];
+                }
+            }
+
+            // Clears the counts for the next length
+            for (int i = 0; i < touchedCount; i++) {
+                shared[touched[i]] = 0;
+            }
+        }
+
+        ArrayList<double[]> ranked = new ArrayList<>(best);
+        ranked.sort((a, b) -> Double.compare(b[1], a[1]));
+        ArrayList<String> results = new ArrayList<>();
+        for (double[] entry : ranked) {
+            results.add(names.get((int) entry[0]));
+        }
+        return results;
+    }
+
+    /**
+     * Ranks a small set of vendor names against the query, used to merge candidates from several ledgers
+     */
+    public static List<String> rank(String query, Collection<String> vendors, int limit) {
+        VendorIndex index = new VendorIndex();
+        for (String vendor : vendors) {
+            index.add(vendor);
+        }
+        return index.search(query, limit);
+    }
+
+    /**
+     * Splits text into overlapping three-character pieces, ignoring punctuation
+     * Text is padded so short vendors and their first letters still produce trigrams
+     */
+    private static Set<String> trigrams(String text) {
+        String cleaned = NON_ALPHANUMERIC.matcher(text).replaceAll(" ").trim();
+        String padded = "  " + cleaned + " ";
+        LinkedHashSet<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    /**
+     * Helper method to count single character edits needed to turn one string into another
+     * Only cells within max of the diagonal are filled in, and once more than max edits are needed it
+     * stops early and returns max + 1
+     */
+    private static int editDistance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] previous = new int[b.length() + 2];
+        int[] current = new int[b.length() + 2];
+        for (int j = 0; j <= b.length() + 1; j++) {
+            previous[j] = j <= max ? j : max + 1;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            int from = Math.max(1, i - max);
+            int to = Math.min(b.length(), i + max);
+            current[from - 1] = from == 1 ? i : max + 1;
+            int rowMin = current[from - 1];
+            for (int j = from; j <= to; j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            // Cells right of the band count as too many edits for the next row
+            current[to + 1] = max + 1;
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[b.length()], max + 1);
+    }
+}